@@ -5,7 +5,15 @@
  */
 public abstract class Asset {
     // ENCAPSULATION - all fields are private
-    private String assetId;
+    // Conforming IDs are stored packed as a long (see AssetIdCodec) instead of as a String.
+    // The ID cannot change after construction, so InventoryManager's ID index stays in step.
+    // Trade-off: the free-form field below adds a 4-8 byte reference to every asset, and
+    // getAssetId() decodes a new String on each call. Index lookups, ID comparisons and
+    // searches use the packed code instead; only code that needs the text (table rows,
+    // getDetails) pays for the String.
+    private final long assetIdCode;
+    // Only set for free-form IDs that cannot be packed (assetIdCode is then NO_CODE)
+    private final String freeFormAssetId;
     private String name;
     private String location;
     
@@ -14,20 +22,52 @@ public abstract class Asset {
      * @param assetId Unique identifier for the asset
      * @param name Name of the asset
      * @param location Location where the asset is stored
+     * @throws IllegalArgumentException if assetId is null
      */
     public Asset(String assetId, String name, String location) {
-        this.assetId = assetId;
+        if (assetId == null) {
+            throw new IllegalArgumentException("Asset ID must not be null");
+        }
+        this.assetIdCode = AssetIdCodec.encode(assetId);
+        this.freeFormAssetId = assetIdCode == AssetIdCodec.NO_CODE ? assetId : null;
         this.name = name;
         this.location = location;
     }
     
     // ENCAPSULATION - Public getters and setters for private fields
     public String getAssetId() {
-        return assetId;
+        return assetIdCode == AssetIdCodec.NO_CODE ? freeFormAssetId : AssetIdCodec.decode(assetIdCode);
     }
     
-    public void setAssetId(String assetId) {
-        this.assetId = assetId;
+    /**
+     * Gets the packed form of the asset ID
+     * @return The ID code produced by AssetIdCodec, or AssetIdCodec.NO_CODE for a free-form ID
+     */
+    public long getAssetIdCode() {
+        return assetIdCode;
+    }
+    
+    /**
+     * Checks whether this asset has the same ID as another one
+     * Packed IDs are compared as longs, so no String is created
+     * @param other The asset to compare with
+     * @return true if both IDs are equal
+     */
+    public boolean hasSameAssetId(Asset other) {
+        return assetIdCode == other.assetIdCode
+                && (assetIdCode != AssetIdCodec.NO_CODE || freeFormAssetId.equals(other.freeFormAssetId));
+    }
+    
+    /**
+     * Checks whether the asset ID contains a search term, ignoring case
+     * @param lowerSearchTerm The search term, already in lower case
+     * @return true if the ID contains the term
+     */
+    public boolean assetIdContainsIgnoreCase(String lowerSearchTerm) {
+        if (assetIdCode == AssetIdCodec.NO_CODE) {
+            return freeFormAssetId.toLowerCase().contains(lowerSearchTerm);
+        }
+        return AssetIdCodec.containsIgnoreCase(assetIdCode, lowerSearchTerm);
     }
     
     public String getName() {
@@ -0,0 +1,140 @@
+/**
+ * AssetIdCodec packs asset IDs into a single long value.
+ * IDs that follow the school's "prefix plus number" pattern (e.g. "E001", "F003")
+ * are packed directly into the bits of the long, so no String needs to be kept.
+ * Any other (free-form) ID cannot be packed; Asset keeps those as a String instead.
+ *
+ * Packed layout (bit 63 is always 0):
+ *   bits 62..48  up to three uppercase prefix letters, 5 bits each (A=1 .. Z=26, 0=unused)
+ *   bits 47..44  number of digits (1..13), so leading zeros survive a round trip
+ *   bits 43..0   numeric part
+ */
+public final class AssetIdCodec {
+    /** Returned by {@link #encode(String)} for IDs that do not follow the pattern */
+    public static final long NO_CODE = -1L;
+
+    private static final int MAX_PREFIX_LETTERS = 3;
+    private static final int MAX_DIGITS = 13;
+    private static final int LETTER_BITS = 5;
+    private static final int PREFIX_SHIFT = 48;
+    private static final int DIGITS_SHIFT = 44;
+    private static final long NUMBER_MASK = (1L << DIGITS_SHIFT) - 1;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private AssetIdCodec() {
+        // Utility class - not meant to be instantiated
+    }
+
+    /**
+     * Packs a conforming asset ID into a long without allocating anything
+     * @param assetId The ID to encode, must not be null
+     * @return The packed code, or NO_CODE if the ID is free-form
+     */
+    public static long encode(String assetId) {
+        int length = assetId.length();
+        int letters = 0;
+        long prefix = 0;
+        while (letters < length && letters < MAX_PREFIX_LETTERS) {
+            char c = assetId.charAt(letters);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            prefix = (prefix << LETTER_BITS) | (c - 'A' + 1);
+            letters++;
+        }
+        int digits = length - letters;
+        if (letters == 0 || digits < 1 || digits > MAX_DIGITS) {
+            return NO_CODE;
+        }
+        // Left-align the prefix so that unused letter slots are at the end
+        prefix <<= LETTER_BITS * (MAX_PREFIX_LETTERS - letters);
+
+        long number = 0;
+        for (int i = letters; i < length; i++) {
+            char c = assetId.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_CODE;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return (prefix << PREFIX_SHIFT) | ((long) digits << DIGITS_SHIFT) | number;
+    }
+
+    /**
+     * Decodes a code back into the original asset ID
+     * @param code A packed code produced by {@link #encode(String)}
+     * @return The asset ID
+     */
+    public static String decode(long code) {
+        int length = length(code);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(code, i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Checks whether the ID behind a code contains the given term, ignoring case.
+     * The ID is checked digit by digit, so no String is created.
+     * @param code A packed code produced by {@link #encode(String)}
+     * @param lowerSearchTerm The search term, already in lower case
+     * @return true if the ID contains the term
+     */
+    public static boolean containsIgnoreCase(long code, String lowerSearchTerm) {
+        int length = length(code);
+        int termLength = lowerSearchTerm.length();
+        for (int start = 0; start + termLength <= length; start++) {
+            int i = 0;
+            while (i < termLength
+                    && Character.toLowerCase(charAt(code, start + i)) == lowerSearchTerm.charAt(i)) {
+                i++;
+            }
+            if (i == termLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int prefixLetters(long code) {
+        int letters = 0;
+        while (letters < MAX_PREFIX_LETTERS && prefixLetter(code, letters) != 0) {
+            letters++;
+        }
+        return letters;
+    }
+
+    private static int prefixLetter(long code, int position) {
+        int shift = PREFIX_SHIFT + LETTER_BITS * (MAX_PREFIX_LETTERS - 1 - position);
+        return (int) ((code >>> shift) & ((1 << LETTER_BITS) - 1));
+    }
+
+    private static int digitCount(long code) {
+        return (int) ((code >>> DIGITS_SHIFT) & 0xF);
+    }
+
+    private static int length(long code) {
+        return prefixLetters(code) + digitCount(code);
+    }
+
+    /**
+     * Computes a single character of a packed ID
+     */
+    private static char charAt(long code, int index) {
+        int letters = prefixLetters(code);
+        if (index < letters) {
+            return (char) ('A' + prefixLetter(code, index) - 1);
+        }
+        int digitsAfter = digitCount(code) - 1 - (index - letters);
+        long number = code & NUMBER_MASK;
+        return (char) ('0' + (number / POWERS_OF_TEN[digitsAfter]) % 10);
+    }
+}
@@ -0,0 +1,486 @@
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.TableModel;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AssetRowSorter sorts and filters the asset table without going back to the model
+ * on every comparison.
+ *
+ * When a row enters the model its cells are turned into collation keys once, and the
+ * wattage of Electronics is parsed into a double, so comparisons are cheap. The sorted
+ * order of each column is cached as a permutation array, so switching back to a column
+ * reuses it instead of sorting again. Single-row inserts, updates and deletes are
+ * applied to the cached permutations with a binary-search insert instead of a full sort.
+ */
+public class AssetRowSorter extends RowSorter<TableModel> {
+    // Column positions used by MainApp's table
+    public static final int ID_COLUMN = 0;
+    public static final int NAME_COLUMN = 1;
+    public static final int TYPE_COLUMN = 2;
+    public static final int LOCATION_COLUMN = 3;
+    public static final int SPECIFICS_COLUMN = 4;
+
+    private final TableModel model;
+    private final Collator collator;
+
+    // Precomputed sort and filter keys, one entry per model row
+    private final ArrayList<RowKeys> rowKeys = new ArrayList<>();
+    // Cached ascending permutation per column, null when it has to be rebuilt
+    private int[][] sortedByColumn;
+
+    private List<SortKey> sortKeys = Collections.emptyList();
+    private String filterText = "";
+
+    // Current view mapping; both are null while the view is unsorted and unfiltered
+    private int[] viewToModel;
+    private int[] modelToView;
+
+    /**
+     * Creates a sorter for the asset table model
+     * @param model The table model to sort
+     */
+    public AssetRowSorter(TableModel model) {
+        this.model = model;
+        this.collator = Collator.getInstance();
+        reloadAllKeys();
+    }
+
+    @Override
+    public TableModel getModel() {
+        return model;
+    }
+
+    /**
+     * Sets the filter text; only rows whose ID, name or location contain it are shown
+     * @param text The text to filter on (case-insensitive), or empty to show all rows
+     */
+    public void setFilterText(String text) {
+        String lowerText = text == null ? "" : text.trim().toLowerCase();
+        if (!lowerText.equals(filterText)) {
+            filterText = lowerText;
+            updateView();
+        }
+    }
+
+    /**
+     * Cycles the column between ascending and descending order
+     * @param column The model column to sort on
+     */
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column
+                && sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING) {
+            order = SortOrder.DESCENDING;
+        }
+        setSortKeys(Collections.singletonList(new SortKey(column, order)));
+    }
+
+    /**
+     * Sets the sort keys; only the first key is used
+     * @param keys The new sort keys, or null to unsort
+     */
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newKeys = Collections.emptyList();
+        if (keys != null && !keys.isEmpty()) {
+            checkColumn(keys.get(0).getColumn());
+            newKeys = Collections.singletonList(keys.get(0));
+        }
+        if (!newKeys.equals(sortKeys)) {
+            sortKeys = newKeys;
+            fireSortOrderChanged();
+            updateView();
+        }
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= getModelRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid view index: " + index);
+            }
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modelToView == null) {
+            if (index < 0 || index >= getModelRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid model index: " + index);
+            }
+            return index;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? getModelRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return rowKeys.size();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() >= model.getColumnCount()) {
+            sortKeys = Collections.emptyList();
+        }
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        int[] previousView = currentView();
+        reloadAllKeys();
+        applyChange(previousView);
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        checkModelRange(firstRow, endRow, rowKeys.size() + (endRow - firstRow + 1));
+        if (firstRow != endRow) {
+            allRowsChanged();
+            return;
+        }
+        int[] previousView = currentView();
+        // Rows at and after the insert point move down by one
+        for (int[] order : sortedByColumn) {
+            if (order != null) {
+                for (int i = 0; i < order.length; i++) {
+                    if (order[i] >= firstRow) {
+                        order[i]++;
+                    }
+                }
+            }
+        }
+        rowKeys.add(firstRow, readKeys(firstRow));
+        for (int column = 0; column < sortedByColumn.length; column++) {
+            if (sortedByColumn[column] != null) {
+                sortedByColumn[column] = insertInOrder(sortedByColumn[column], firstRow, column);
+            }
+        }
+        applyChange(previousView);
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        checkModelRange(firstRow, endRow, rowKeys.size());
+        if (firstRow != endRow) {
+            allRowsChanged();
+            return;
+        }
+        int[] previousView = currentView();
+        for (int column = 0; column < sortedByColumn.length; column++) {
+            if (sortedByColumn[column] != null) {
+                sortedByColumn[column] = removeFromOrder(sortedByColumn[column], firstRow);
+            }
+        }
+        rowKeys.remove(firstRow);
+        applyChange(previousView);
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        checkModelRange(firstRow, endRow, rowKeys.size());
+        if (firstRow != endRow) {
+            allRowsChanged();
+            return;
+        }
+        int[] previousView = currentView();
+        // Take the row out of each cached order and put it back where its new keys belong
+        for (int column = 0; column < sortedByColumn.length; column++) {
+            if (sortedByColumn[column] != null) {
+                sortedByColumn[column] = removeRow(sortedByColumn[column], firstRow);
+            }
+        }
+        rowKeys.set(firstRow, readKeys(firstRow));
+        for (int column = 0; column < sortedByColumn.length; column++) {
+            if (sortedByColumn[column] != null) {
+                sortedByColumn[column] = insertInOrder(sortedByColumn[column], firstRow, column);
+            }
+        }
+        applyChange(previousView);
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        checkColumn(column);
+        rowsUpdated(firstRow, endRow);
+    }
+
+    /**
+     * Reads every row of the model into keys and drops all cached orders
+     */
+    private void reloadAllKeys() {
+        rowKeys.clear();
+        int rowCount = model.getRowCount();
+        rowKeys.ensureCapacity(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            rowKeys.add(readKeys(row));
+        }
+        sortedByColumn = new int[model.getColumnCount()][];
+    }
+
+    /**
+     * Builds the sort and filter keys for one model row
+     */
+    private RowKeys readKeys(int row) {
+        int columnCount = model.getColumnCount();
+        RowKeys keys = new RowKeys(columnCount);
+        String[] text = new String[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            Object value = model.getValueAt(row, column);
+            text[column] = value == null ? "" : value.toString();
+            keys.collationKeys[column] = collator.getCollationKey(text[column]);
+        }
+        if (columnCount > SPECIFICS_COLUMN) {
+            keys.lowerId = text[ID_COLUMN].toLowerCase();
+            keys.lowerName = text[NAME_COLUMN].toLowerCase();
+            keys.lowerLocation = text[LOCATION_COLUMN].toLowerCase();
+
+            // Electronics show their wattage as e.g. "65.0W"; sort those numerically
+            String specifics = text[SPECIFICS_COLUMN];
+            if ("Electronics".equals(text[TYPE_COLUMN]) && specifics.endsWith("W")) {
+                try {
+                    keys.wattage = Double.parseDouble(specifics.substring(0, specifics.length() - 1));
+                    keys.hasWattage = true;
+                } catch (NumberFormatException e) {
+                    keys.hasWattage = false;
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Compares two model rows on a column
+     * Ties are broken by model index, so every row has exactly one position
+     */
+    private int compareRows(int rowA, int rowB, int column) {
+        RowKeys a = rowKeys.get(rowA);
+        RowKeys b = rowKeys.get(rowB);
+        int result;
+        if (column == SPECIFICS_COLUMN && (a.hasWattage || b.hasWattage)) {
+            if (a.hasWattage && b.hasWattage) {
+                result = Double.compare(a.wattage, b.wattage);
+            } else {
+                // Electronics (numeric) come before Furniture materials
+                result = a.hasWattage ? -1 : 1;
+            }
+        } else {
+            result = a.collationKeys[column].compareTo(b.collationKeys[column]);
+        }
+        return result != 0 ? result : Integer.compare(rowA, rowB);
+    }
+
+    /**
+     * Gets the ascending order of a column, sorting only if it is not cached
+     */
+    private int[] ascendingOrder(int column) {
+        if (sortedByColumn[column] == null) {
+            int rowCount = rowKeys.size();
+            int[] order = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[rowCount], 0, rowCount, column);
+            sortedByColumn[column] = order;
+        }
+        return sortedByColumn[column];
+    }
+
+    /**
+     * Sorts a range of model indices on a primitive int array
+     */
+    private void mergeSort(int[] order, int[] buffer, int from, int to, int column) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle, column);
+        mergeSort(order, buffer, middle, to, column);
+        if (compareRows(order[middle - 1], order[middle], column) <= 0) {
+            return; // Already in order
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareRows(buffer[left], buffer[right], column) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * Inserts a model row into a sorted order at the position found by binary search
+     */
+    private int[] insertInOrder(int[] order, int row, int column) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareRows(order[middle], row, column) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int[] result = new int[order.length + 1];
+        System.arraycopy(order, 0, result, 0, low);
+        result[low] = row;
+        System.arraycopy(order, low, result, low + 1, order.length - low);
+        return result;
+    }
+
+    /**
+     * Removes a model row from an order, leaving the other indices unchanged
+     */
+    private static int[] removeRow(int[] order, int row) {
+        int[] result = new int[order.length - 1];
+        int size = 0;
+        for (int modelIndex : order) {
+            if (modelIndex != row) {
+                result[size++] = modelIndex;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes a deleted model row from an order and shifts the rows after it up by one
+     */
+    private static int[] removeFromOrder(int[] order, int row) {
+        int[] result = removeRow(order, row);
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] > row) {
+                result[i]--;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the view after a single-row model change and tells the table
+     * @param previousView The view-to-model mapping from before the change
+     */
+    private void applyChange(int[] previousView) {
+        rebuildView();
+        fireRowSorterChanged(previousView);
+    }
+
+    /**
+     * Rebuilds the view after the sort keys, filter or whole model changed
+     */
+    private void updateView() {
+        applyChange(currentView());
+    }
+
+    /**
+     * Walks the cached order of the sort column, skipping rows the filter rejects.
+     * No comparisons happen here once the column's order is cached.
+     */
+    private void rebuildView() {
+        int rowCount = rowKeys.size();
+        boolean sorted = !sortKeys.isEmpty() && sortKeys.get(0).getSortOrder() != SortOrder.UNSORTED;
+        if (!sorted && filterText.isEmpty()) {
+            viewToModel = null;
+            modelToView = null;
+            return;
+        }
+
+        int[] order = sorted ? ascendingOrder(sortKeys.get(0).getColumn()) : null;
+        boolean descending = sorted && sortKeys.get(0).getSortOrder() == SortOrder.DESCENDING;
+        int[] view = new int[rowCount];
+        int viewCount = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int position = descending ? rowCount - 1 - i : i;
+            int modelIndex = order == null ? position : order[position];
+            if (accepts(modelIndex)) {
+                view[viewCount++] = modelIndex;
+            }
+        }
+
+        viewToModel = viewCount == rowCount ? view : Arrays.copyOf(view, viewCount);
+        modelToView = new int[rowCount];
+        Arrays.fill(modelToView, -1);
+        for (int i = 0; i < viewCount; i++) {
+            modelToView[viewToModel[i]] = i;
+        }
+    }
+
+    /**
+     * Checks a row against the filter text, using the same fields as InventoryManager.searchAssets
+     */
+    private boolean accepts(int modelIndex) {
+        if (filterText.isEmpty()) {
+            return true;
+        }
+        RowKeys keys = rowKeys.get(modelIndex);
+        return keys.lowerName.contains(filterText)
+                || keys.lowerId.contains(filterText)
+                || keys.lowerLocation.contains(filterText);
+    }
+
+    /**
+     * Gets the current view-to-model mapping, which the table needs to restore its selection
+     */
+    private int[] currentView() {
+        if (viewToModel != null) {
+            return viewToModel;
+        }
+        int[] view = new int[rowKeys.size()];
+        for (int i = 0; i < view.length; i++) {
+            view[i] = i;
+        }
+        return view;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= model.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column " + column + " is outside the model");
+        }
+    }
+
+    private void checkModelRange(int firstRow, int endRow, int rowCount) {
+        if (firstRow < 0 || endRow < firstRow || endRow >= rowCount) {
+            throw new IndexOutOfBoundsException("Invalid row range " + firstRow + " to " + endRow);
+        }
+    }
+
+    /**
+     * Precomputed keys for one model row
+     */
+    private static final class RowKeys {
+        final CollationKey[] collationKeys;
+        String lowerId = "";
+        String lowerName = "";
+        String lowerLocation = "";
+        boolean hasWattage;
+        double wattage;
+
+        RowKeys(int columnCount) {
+            collationKeys = new CollationKey[columnCount];
+        }
+    }
+}
@@ -0,0 +1,1262 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * InventoryLoadSimulator drives an InventoryManager the way a busy school does:
+ * many clerks adding, editing, deleting and searching at once, auditors running
+ * aggregates over snapshots, and occasional bulk imports.
+ *
+ * Clerks race on the same IDs without any locking of their own, so duplicate IDs and
+ * lost updates caused by two clerks changing one asset at once can surface. Each change
+ * is noted with atomic per-ID counters while it runs, and the results are checked
+ * against those counters both on the fly and once all clerks have stopped. A single
+ * front desk also works the inventory by list position through the same calls MainApp
+ * makes (getAsset, updateAsset, deleteAsset and plain addAsset).
+ *
+ * It reports throughput, latency percentiles, GC pauses and allocation rate at a
+ * fixed interval. Any duplicate ID, lost update, unstable snapshot or misplaced desk
+ * row is a correctness violation and makes the run exit with status 1.
+ *
+ * Usage: java InventoryLoadSimulator [--option=value ...]
+ *   --threads=16          number of concurrent clerks
+ *   --virtual             run clerks on virtual threads (needs Java 21 or later)
+ *   --duration=60         run time in seconds (use hours for a soak run)
+ *   --report=10           seconds between progress reports
+ *   --keys=10000          number of distinct asset IDs
+ *   --preload=0.5         fraction of IDs added before the run starts
+ *   --zipf=0.99           key skew; 0 is uniform, higher values favour a few hot assets
+ *   --mix=add:15,update:45,delete:10,search:23,aggregate:4,import:1,desk:2
+ *   --import-batch=200    assets added by one import operation
+ *   --seed=42             random seed
+ *   --fail-fast           stop all clerks at the first violation
+ */
+public class InventoryLoadSimulator {
+    // Operation types, in the order used for counters and histograms
+    private static final String[] OPERATIONS = {"add", "update", "delete", "search", "aggregate", "import", "desk"};
+    private static final int ADD = 0;
+    private static final int UPDATE = 1;
+    private static final int DELETE = 2;
+    private static final int SEARCH = 3;
+    private static final int AGGREGATE = 4;
+    private static final int IMPORT = 5;
+    private static final int DESK = 6;
+
+    // Realistic value distributions: {value, weight}
+    private static final Object[][] LOCATIONS = {
+        {"Classroom A", 14}, {"Classroom B", 14}, {"Classroom C", 12}, {"Classroom D", 10},
+        {"Library", 12}, {"Computer Lab", 10}, {"Science Lab", 8}, {"Office", 7},
+        {"Staff Room", 5}, {"Gym", 4}, {"Music Room", 2}, {"Storage", 2}
+    };
+    private static final Object[][] MATERIALS = {
+        {"Wood", 40}, {"Plastic", 25}, {"Metal", 20}, {"Fabric", 10}, {"Glass", 5}
+    };
+    // {device name, typical wattage, weight}
+    private static final Object[][] DEVICES = {
+        {"Laptop", 65.0, 30}, {"Monitor", 30.0, 20}, {"Projector", 250.0, 12}, {"Desktop", 200.0, 12},
+        {"Printer", 45.0, 8}, {"Tablet", 10.0, 10}, {"Smartboard", 350.0, 5}, {"Speaker", 20.0, 3}
+    };
+    private static final String[] FURNITURE = {"Desk", "Chair", "Bookshelf", "Table", "Cabinet", "Whiteboard"};
+
+    private static final int MAX_REPORTED_VIOLATIONS = 20;
+
+    // Layout of the per-ID "presence" counter: acknowledged adds minus acknowledged
+    // deletes in the high half, adds and deletes still running in the low half
+    private static final long PRESENT_UNIT = 1L << 32;
+    // Layout of the per-ID "progress" counter: highest version handed out above
+    // IN_FLIGHT_BITS, changes still running below
+    private static final int IN_FLIGHT_BITS = 20;
+    private static final long IN_FLIGHT_MASK = (1L << IN_FLIGHT_BITS) - 1;
+
+    // Assets the front desk starts with, below the manager's own sample data
+    private static final int DESK_PRELOAD = 40;
+    // The desk stops deleting once this few rows are left at the top of the list
+    private static final int DESK_MIN_ROWS = 10;
+    // Upper bound on new desk IDs, so a soak run does not grow without limit
+    private static final int DESK_MAX_IDS = 5_000;
+
+    private final Config config;
+    private final InventoryManager manager = new InventoryManager();
+    private final ZipfianGenerator keyChooser;
+    private final int[] operationTable;
+
+    // Per-ID bookkeeping, kept with atomics so that clerks never wait for each other
+    private final AtomicLongArray presence;
+    private final AtomicLongArray progress;
+    // Every change with a version up to this one has finished (the ID was briefly idle)
+    private final AtomicLongArray settledVersion;
+    // Versions up to this one were followed by an acknowledged change and cannot be the final state
+    private final AtomicLongArray supersededVersion;
+
+    // The front desk works by list position like MainApp, one session at a time.
+    // Its rows are added first, so they stay at the top of the list above every
+    // clerk asset and clerk deletes never shift them. Guarded by deskLock.
+    private final ReentrantLock deskLock = new ReentrantLock();
+    private final List<String[]> deskRows = new ArrayList<>(); // {id, name} in list order
+    private final Map<String, Integer> deskExtraCopies = new HashMap<>(); // added below the clerk assets
+    private final Set<String> deskIds = new HashSet<>();
+    private int deskIdsIssued;
+    private long deskNames;
+    private volatile LocationRollup lastAudit;
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final AtomicLong violationCount = new AtomicLong();
+    private final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private final GcPauseTracker gcPauses = new GcPauseTracker();
+
+    /**
+     * Creates a simulator for the given configuration
+     * @param config The parsed command line options
+     */
+    public InventoryLoadSimulator(Config config) {
+        this.config = config;
+        this.keyChooser = new ZipfianGenerator(config.keys, config.zipf);
+        this.operationTable = buildOperationTable(config.mix);
+        this.presence = new AtomicLongArray(config.keys);
+        this.progress = new AtomicLongArray(config.keys);
+        this.settledVersion = new AtomicLongArray(config.keys);
+        this.supersededVersion = new AtomicLongArray(config.keys);
+        for (int key = 0; key < config.keys; key++) {
+            supersededVersion.set(key, -1);
+        }
+        int stripes = Math.min(config.threads, Runtime.getRuntime().availableProcessors() * 2);
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            latencies[op] = new LatencyHistogram(Math.max(1, stripes));
+        }
+    }
+
+    /**
+     * Entry point
+     * @param args Command line options, see the class comment
+     */
+    public static void main(String[] args) throws Exception {
+        Config config;
+        try {
+            config = Config.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        boolean passed = new InventoryLoadSimulator(config).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Runs the workload and the final consistency check
+     * @return true if no correctness violation was found
+     */
+    public boolean run() throws InterruptedException {
+        System.out.println("=== Inventory Load Simulator ===");
+        System.out.println(config);
+        preload();
+        gcPauses.start();
+
+        ExecutorService clerks = createClerkExecutor();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        for (int i = 0; i < config.threads; i++) {
+            int clerk = i;
+            clerks.execute(() -> runClerk(clerk, endNanos));
+        }
+        clerks.shutdown();
+
+        Interval runStart = new Interval(startNanos);
+        Interval interval = runStart;
+        long reportNanos = TimeUnit.SECONDS.toNanos(config.reportSeconds);
+        while (!clerks.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+            if (System.nanoTime() - interval.startNanos >= reportNanos) {
+                interval = report(interval, startNanos, false);
+            }
+        }
+        report(runStart, startNanos, true);
+        if (lastAudit != null) {
+            lastAudit.print();
+        }
+
+        verifyFinalState();
+        gcPauses.stop();
+        manager.shutdown();
+        return printVerdict();
+    }
+
+    /**
+     * Adds the initial share of assets before the clock starts
+     * The desk's rows go in first so that they stay at the top of the list
+     */
+    private void preload() {
+        SplittableRandom random = new SplittableRandom(config.seed);
+        for (Asset sample : manager.getAssets()) {
+            deskRows.add(new String[] {sample.getAssetId(), sample.getName()});
+            deskIds.add(sample.getAssetId());
+        }
+        for (int i = 0; i < DESK_PRELOAD; i++) {
+            Asset asset = createDeskAsset(nextDeskId(), random);
+            manager.addAsset(asset);
+            deskRows.add(new String[] {asset.getAssetId(), asset.getName()});
+        }
+
+        int count = (int) (config.keys * config.preload);
+        for (int key = 0; key < count; key++) {
+            Asset asset = createAsset(key, 0, random);
+            manager.addAsset(asset);
+            presence.set(key, PRESENT_UNIT);
+        }
+        System.out.println("Preloaded " + count + " assets and " + deskRows.size() + " desk rows");
+    }
+
+    /**
+     * The loop each clerk runs until the deadline
+     */
+    private void runClerk(int clerk, long endNanos) {
+        SplittableRandom random = new SplittableRandom(config.seed + 31L * (clerk + 1));
+        int stripe = clerk % latencies[0].stripes();
+        try {
+            while (!stopping.get() && System.nanoTime() < endNanos) {
+                int op = operationTable[random.nextInt(operationTable.length)];
+                long elapsed = runOperation(op, random);
+                latencies[op].record(stripe, elapsed);
+            }
+        } catch (RuntimeException e) {
+            recordViolation("Clerk " + clerk + " failed: " + e);
+        }
+        AllocationMeter.threadFinished();
+    }
+
+    /**
+     * Runs one operation against the manager
+     * @return The time spent inside InventoryManager, in nanoseconds
+     */
+    private long runOperation(int op, SplittableRandom random) {
+        switch (op) {
+            case ADD:
+                return add(nextKey(random), random);
+            case UPDATE:
+                return update(nextKey(random), random);
+            case DELETE:
+                return delete(nextKey(random));
+            case SEARCH:
+                return search(nextKey(random), random);
+            case AGGREGATE:
+                return aggregate();
+            case IMPORT:
+                return importBatch(random);
+            case DESK:
+                return frontDesk(random);
+            default:
+                throw new IllegalStateException("Unknown operation " + op);
+        }
+    }
+
+    private long add(int key, SplittableRandom random) {
+        long version = beginChange(key);
+        long settled = settledVersion.get(key);
+        Asset asset = createAsset(key, version, random);
+        presence.incrementAndGet(key);
+        long start = System.nanoTime();
+        boolean added = manager.addAssetIfAbsent(asset);
+        long elapsed = System.nanoTime() - start;
+        if (added) {
+            long state = presence.addAndGet(key, PRESENT_UNIT - 1);
+            // Deletes that are still running may not have been counted yet, but nothing else
+            if (liveCount(state) > 1 + inFlight(state)) {
+                recordViolation("Duplicate ID accepted: " + idFor(key));
+            }
+            supersede(key, settled);
+        } else {
+            presence.decrementAndGet(key);
+        }
+        endChange(key);
+        return elapsed;
+    }
+
+    private long update(int key, SplittableRandom random) {
+        long version = beginChange(key);
+        long settled = settledVersion.get(key);
+        Asset asset = createAsset(key, version, random);
+        long start = System.nanoTime();
+        boolean updated = manager.updateAssetById(asset.getAssetId(), asset);
+        long elapsed = System.nanoTime() - start;
+        if (updated) {
+            supersede(key, settled);
+        }
+        endChange(key);
+        return elapsed;
+    }
+
+    private long delete(int key) {
+        beginChange(key);
+        long settled = settledVersion.get(key);
+        presence.incrementAndGet(key);
+        long start = System.nanoTime();
+        boolean deleted = manager.deleteAssetById(idFor(key));
+        long elapsed = System.nanoTime() - start;
+        if (deleted) {
+            long state = presence.addAndGet(key, -PRESENT_UNIT - 1);
+            // Adds that are still running may not have been counted yet, but nothing else
+            if (liveCount(state) < -inFlight(state)) {
+                recordViolation("Delete removed a missing ID: " + idFor(key));
+            }
+            supersede(key, settled);
+        } else {
+            presence.decrementAndGet(key);
+        }
+        endChange(key);
+        return elapsed;
+    }
+
+    /**
+     * Registers a change to an ID and hands out its version
+     * Versions are handed out in the order changes start, starting at 1 (preloaded assets are version 0)
+     */
+    private long beginChange(int key) {
+        return progress.addAndGet(key, (1L << IN_FLIGHT_BITS) + 1) >>> IN_FLIGHT_BITS;
+    }
+
+    private void endChange(int key) {
+        long state = progress.decrementAndGet(key);
+        if ((state & IN_FLIGHT_MASK) == 0) {
+            // Nothing is running on this ID, so every version handed out so far has finished
+            settledVersion.accumulateAndGet(key, state >>> IN_FLIGHT_BITS, Math::max);
+        }
+    }
+
+    /**
+     * Notes an acknowledged change that started after every version up to settled had finished.
+     * The manager must order the change after those versions, so none of them can be the final state.
+     */
+    private void supersede(int key, long settled) {
+        supersededVersion.accumulateAndGet(key, settled, Math::max);
+    }
+
+    private static long liveCount(long presenceState) {
+        return presenceState >> 32;
+    }
+
+    private static long inFlight(long presenceState) {
+        return presenceState & (PRESENT_UNIT - 1);
+    }
+
+    /**
+     * Searches the way a clerk would: by a location, or by the start of an ID
+     */
+    private long search(int key, SplittableRandom random) {
+        String term = random.nextInt(4) == 0
+                ? pick(LOCATIONS, random)
+                : idFor(key).substring(0, 5);
+        long start = System.nanoTime();
+        List<Asset> results = manager.searchAssets(term);
+        long elapsed = System.nanoTime() - start;
+        checkNoDuplicates(results, "search for \"" + term + "\"");
+        return elapsed;
+    }
+
+    /**
+     * Audits a snapshot the way an end-of-term report does: asset count and electrical
+     * load per location. The snapshot is read twice and its timestamp re-opened while
+     * writers keep going, to check that reads as of a timestamp are stable and repeatable.
+     */
+    private long aggregate() {
+        long start = System.nanoTime();
+        long elapsed;
+        try (InventorySnapshot snapshot = manager.openSnapshot()) {
+            long timestamp = snapshot.getTimestamp();
+            List<Asset> first = snapshot.getAssets();
+            LocationRollup rollup = new LocationRollup(timestamp, first);
+            List<Asset> second = snapshot.getAssets();
+            List<Asset> reopened;
+            // The first snapshot is still open, so its versions cannot be reclaimed yet
+            try (InventorySnapshot again = manager.openSnapshot(timestamp)) {
+                reopened = again.getAssets();
+            }
+            elapsed = System.nanoTime() - start;
+
+            if (!first.equals(second)) {
+                recordViolation("Snapshot at timestamp " + timestamp
+                        + " changed while open (" + first.size() + " then " + second.size() + " assets)");
+            }
+            if (!first.equals(reopened)) {
+                recordViolation("Re-opening timestamp " + timestamp + " gave different assets ("
+                        + first.size() + " then " + reopened.size() + " assets)");
+            }
+            checkNoDuplicates(first, "snapshot at timestamp " + timestamp);
+            lastAudit = rollup;
+        }
+        return elapsed;
+    }
+
+    /**
+     * A nightly import: adds a run of consecutive IDs, skipping ones that already exist
+     */
+    private long importBatch(SplittableRandom random) {
+        int firstKey = random.nextInt(config.keys);
+        long elapsed = 0;
+        for (int i = 0; i < config.importBatch && !stopping.get(); i++) {
+            elapsed += add((firstKey + i) % config.keys, random);
+        }
+        return elapsed;
+    }
+
+    /**
+     * One front desk session, using the calls MainApp makes
+     * Sessions take turns like MainApp's single event thread; the wait counts towards the latency
+     */
+    private long frontDesk(SplittableRandom random) {
+        long start = System.nanoTime();
+        deskLock.lock();
+        try {
+            int action = random.nextInt(20);
+            if (action < 3 && deskRows.size() > DESK_MIN_ROWS) {
+                deskDelete(random.nextInt(deskRows.size()));
+            } else if (action < 6 && deskIdsIssued < DESK_MAX_IDS) {
+                deskAdd(random);
+            } else if (action < 8) {
+                deskAddCopy(random.nextInt(deskRows.size()), random);
+            } else {
+                deskEdit(random.nextInt(deskRows.size()), random);
+            }
+        } finally {
+            deskLock.unlock();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Edits a row like MainApp's edit dialog: read it by position, then replace it by position
+     */
+    private void deskEdit(int row, SplittableRandom random) {
+        String[] expected = deskRows.get(row);
+        Asset current = manager.getAsset(row);
+        if (current == null || !current.getAssetId().equals(expected[0]) || !current.getName().equals(expected[1])) {
+            recordViolation("getAsset(" + row + ") returned " + describe(current)
+                    + " instead of " + expected[0] + " \"" + expected[1] + "\"");
+            return;
+        }
+        Asset edited = createDeskAsset(expected[0], random);
+        manager.updateAsset(row, edited);
+        expected[1] = edited.getName();
+    }
+
+    /**
+     * Adds a new asset like MainApp's add dialog: check the ID, then add it
+     * New assets go to the end of the list, below the clerk assets
+     */
+    private void deskAdd(SplittableRandom random) {
+        Asset asset = createDeskAsset(nextDeskId(), random);
+        if (manager.assetIdExists(asset.getAssetId())) {
+            recordViolation("ID index reports unused desk ID " + asset.getAssetId());
+            return;
+        }
+        manager.addAsset(asset);
+        deskExtraCopies.merge(asset.getAssetId(), 1, Integer::sum);
+    }
+
+    /**
+     * Adds a second asset with a row's ID through plain addAsset, which does not check for duplicates
+     */
+    private void deskAddCopy(int row, SplittableRandom random) {
+        String id = deskRows.get(row)[0];
+        if (deskExtraCopies.containsKey(id)) {
+            deskEdit(row, random); // One copy per ID is enough to exercise the duplicate handling
+            return;
+        }
+        manager.addAsset(createDeskAsset(id, random));
+        deskExtraCopies.put(id, 1);
+    }
+
+    /**
+     * Deletes a row by position like MainApp; if a copy of its ID remains, the index must find that copy
+     */
+    private void deskDelete(int row) {
+        String id = deskRows.remove(row)[0];
+        manager.deleteAsset(row);
+        boolean copyRemains = deskExtraCopies.containsKey(id);
+        if (manager.assetIdExists(id) != copyRemains) {
+            recordViolation("ID index out of step after deleting desk row " + id
+                    + (copyRemains ? " (a copy remains)" : ""));
+        }
+    }
+
+    private String nextDeskId() {
+        int n = deskIdsIssued++;
+        // Even IDs are packed by AssetIdCodec, odd ones are free-form
+        String id = n % 2 == 0 ? String.format("D%05d", n) : "desk-" + n;
+        deskIds.add(id);
+        return id;
+    }
+
+    private Asset createDeskAsset(String id, SplittableRandom random) {
+        String name = FURNITURE[random.nextInt(FURNITURE.length)] + " d" + (++deskNames);
+        if (random.nextBoolean()) {
+            return new Electronics(id, name, pick(LOCATIONS, random), 10.0 + random.nextInt(300));
+        }
+        return new Furniture(id, name, pick(LOCATIONS, random), pick(MATERIALS, random));
+    }
+
+    private static String describe(Asset asset) {
+        return asset == null ? "nothing" : asset.getAssetId() + " \"" + asset.getName() + "\"";
+    }
+
+    /**
+     * Compares the manager with the simulator's bookkeeping once all clerks have stopped
+     */
+    private void verifyFinalState() {
+        System.out.println("Verifying final state...");
+        List<Asset> assets = manager.getAssets();
+        checkNoDuplicates(assets, "final state");
+        verifyDesk(assets);
+
+        long[] finalVersion = new long[config.keys];
+        Arrays.fill(finalVersion, -1);
+        for (Asset asset : assets) {
+            int key = keyFor(asset.getAssetId());
+            if (key >= 0) {
+                finalVersion[key] = versionOf(key, asset);
+            }
+        }
+        for (int key = 0; key < config.keys; key++) {
+            long live = liveCount(presence.get(key));
+            boolean present = finalVersion[key] >= 0;
+            if (live > 1) {
+                recordViolation("Duplicate ID accepted: " + idFor(key) + " was added "
+                        + live + " times more than deleted");
+            } else if (live < 0) {
+                recordViolation("Delete removed a missing ID: " + idFor(key));
+            } else if (present && live == 0) {
+                recordViolation("Deleted ID still present: " + idFor(key));
+            } else if (!present && live == 1) {
+                recordViolation("Acknowledged asset missing: " + idFor(key));
+            }
+            long superseded = supersededVersion.get(key);
+            if (present && finalVersion[key] <= superseded) {
+                recordViolation("Lost update for " + idFor(key) + ": found version " + finalVersion[key]
+                        + ", but a change acknowledged after version " + superseded + " finished is missing");
+            }
+            if (present != manager.assetIdExists(idFor(key))) {
+                recordViolation("ID index out of step for " + idFor(key));
+            }
+        }
+    }
+
+    /**
+     * Checks that the desk's rows are still at the top of the list, in order, and that
+     * every other desk asset and ID is where the desk left it
+     */
+    private void verifyDesk(List<Asset> assets) {
+        Set<String> rowIds = new HashSet<>();
+        for (int row = 0; row < deskRows.size(); row++) {
+            String[] expected = deskRows.get(row);
+            Asset actual = row < assets.size() ? assets.get(row) : null;
+            if (actual == null || !actual.getAssetId().equals(expected[0]) || !actual.getName().equals(expected[1])) {
+                recordViolation("Desk row " + row + " is " + describe(actual)
+                        + " instead of " + expected[0] + " \"" + expected[1] + "\"");
+            }
+            rowIds.add(expected[0]);
+        }
+        Map<String, Integer> copies = new HashMap<>();
+        for (int i = Math.min(deskRows.size(), assets.size()); i < assets.size(); i++) {
+            String id = assets.get(i).getAssetId();
+            if (keyFor(id) < 0) {
+                copies.merge(id, 1, Integer::sum);
+            }
+        }
+        if (!copies.equals(deskExtraCopies)) {
+            recordViolation("Desk assets below the desk rows: found " + copies.size()
+                    + " IDs, expected " + deskExtraCopies.size());
+        }
+        for (String id : deskIds) {
+            boolean held = rowIds.contains(id) || deskExtraCopies.containsKey(id);
+            if (manager.assetIdExists(id) != held) {
+                recordViolation("ID index out of step for desk ID " + id);
+            }
+        }
+    }
+
+    /**
+     * Reads the version back from a simulator asset's name
+     * @return The version, or -1 after recording a violation if the name is not one the simulator wrote
+     */
+    private long versionOf(int key, Asset asset) {
+        String name = asset.getName();
+        int marker = name.lastIndexOf(" v");
+        try {
+            long version = Long.parseLong(name.substring(marker + 2));
+            if (marker >= 0 && name.endsWith(versionSuffix(key, version))) {
+                return version;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        recordViolation("Unexpected name for " + idFor(key) + ": \"" + name + "\"");
+        return -1;
+    }
+
+    /**
+     * Only the clerks' IDs must be unique; the desk adds duplicates on purpose
+     */
+    private void checkNoDuplicates(List<Asset> assets, String where) {
+        Set<String> ids = new HashSet<>();
+        for (Asset asset : assets) {
+            if (keyFor(asset.getAssetId()) >= 0 && !ids.add(asset.getAssetId())) {
+                recordViolation("Duplicate ID " + asset.getAssetId() + " in " + where);
+            }
+        }
+    }
+
+    private void recordViolation(String message) {
+        if (violationCount.incrementAndGet() <= MAX_REPORTED_VIOLATIONS) {
+            violations.add(message);
+        }
+        if (config.failFast) {
+            stopping.set(true);
+        }
+    }
+
+    private boolean printVerdict() {
+        long count = violationCount.get();
+        if (count == 0) {
+            System.out.println("PASSED - no correctness violations");
+            return true;
+        }
+        System.out.println("FAILED - " + count + " correctness violation(s):");
+        for (String violation : violations) {
+            System.out.println("  " + violation);
+        }
+        if (count > violations.size()) {
+            System.out.println("  ... and " + (count - violations.size()) + " more");
+        }
+        return false;
+    }
+
+    /**
+     * Prints throughput, latency, GC and allocation figures since the last report
+     * @return The start of the next interval
+     */
+    private Interval report(Interval previous, long runStartNanos, boolean cumulative) {
+        long now = System.nanoTime();
+        long[] counts = new long[OPERATIONS.length];
+        long totalOps = 0;
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            counts[op] = latencies[op].totalCount();
+            totalOps += counts[op] - previous.operationCounts[op];
+        }
+        GcPauseTracker.Totals gc = gcPauses.snapshot();
+        long allocated = AllocationMeter.totalAllocatedBytes();
+        double seconds = (now - previous.startNanos) / 1e9;
+
+        StringBuilder line = new StringBuilder();
+        line.append(cumulative ? "[total] " : String.format("[%5ds] ", TimeUnit.NANOSECONDS.toSeconds(now - runStartNanos)));
+        line.append(String.format("throughput=%,.0f ops/s", totalOps / seconds));
+        line.append(String.format(" | gc pauses=%d total=%dms max=%dms",
+                gc.count - previous.gc.count, gc.totalMillis - previous.gc.totalMillis,
+                cumulative ? gc.maxMillis : gcPauses.takeIntervalMax()));
+        if (allocated >= 0 && previous.allocatedBytes >= 0) {
+            line.append(String.format(" | alloc=%,.1f MB/s", (allocated - previous.allocatedBytes) / seconds / 1e6));
+        } else {
+            line.append(" | alloc=n/a");
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        line.append(String.format(" | heap=%,d MB", memory.getHeapMemoryUsage().getUsed() / 1_000_000));
+        line.append(String.format(" | violations=%d", violationCount.get()));
+        System.out.println(line);
+
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            long[] window = cumulative ? latencies[op].snapshot() : latencies[op].takeInterval();
+            long count = LatencyHistogram.count(window);
+            if (count == 0) {
+                continue;
+            }
+            System.out.println(String.format("    %-9s n=%,10d  p50=%8s  p90=%8s  p99=%8s  p99.9=%8s  max=%8s",
+                    OPERATIONS[op], count,
+                    formatNanos(LatencyHistogram.percentile(window, 50.0)),
+                    formatNanos(LatencyHistogram.percentile(window, 90.0)),
+                    formatNanos(LatencyHistogram.percentile(window, 99.0)),
+                    formatNanos(LatencyHistogram.percentile(window, 99.9)),
+                    formatNanos(LatencyHistogram.percentile(window, 100.0))));
+        }
+        return new Interval(now, counts, gc, allocated);
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 10_000) {
+            return nanos + "ns";
+        } else if (nanos < 10_000_000) {
+            return (nanos / 1_000) + "us";
+        }
+        return (nanos / 1_000_000) + "ms";
+    }
+
+    /**
+     * Creates the clerk threads, using virtual threads when asked and available
+     */
+    private ExecutorService createClerkExecutor() {
+        if (config.virtualThreads) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("--virtual needs Java 21 or later (running "
+                        + System.getProperty("java.version") + ")", e);
+            }
+        }
+        AtomicLong threadNumber = new AtomicLong();
+        return Executors.newFixedThreadPool(config.threads, r -> {
+            Thread thread = new Thread(r, "clerk-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private int nextKey(SplittableRandom random) {
+        return keyChooser.next(random);
+    }
+
+    /**
+     * Even keys are Electronics ("E000042"), odd keys are Furniture ("F000043")
+     */
+    private static String idFor(int key) {
+        return String.format("%c%06d", key % 2 == 0 ? 'E' : 'F', key);
+    }
+
+    /**
+     * Maps a simulator ID back to its key
+     * @return The key, or -1 if the ID was not created by the simulator
+     */
+    private int keyFor(String assetId) {
+        if (assetId.length() != 7 || (assetId.charAt(0) != 'E' && assetId.charAt(0) != 'F')) {
+            return -1;
+        }
+        try {
+            int key = Integer.parseInt(assetId.substring(1));
+            return key < config.keys && idFor(key).equals(assetId) ? key : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Every name ends with the key and version, so the final check can spot lost updates
+     */
+    private static String versionSuffix(int key, long version) {
+        return " #" + key + " v" + version;
+    }
+
+    private Asset createAsset(int key, long version, SplittableRandom random) {
+        String location = pick(LOCATIONS, random);
+        if (key % 2 == 0) {
+            Object[] device = pickRow(DEVICES, 2, random);
+            // Real devices vary around their rated wattage
+            double wattage = Math.round((Double) device[1] * (0.8 + random.nextDouble() * 0.4) * 10) / 10.0;
+            return new Electronics(idFor(key), device[0] + versionSuffix(key, version), location, wattage);
+        }
+        String name = FURNITURE[random.nextInt(FURNITURE.length)];
+        return new Furniture(idFor(key), name + versionSuffix(key, version), location, pick(MATERIALS, random));
+    }
+
+    private static String pick(Object[][] weighted, SplittableRandom random) {
+        return (String) pickRow(weighted, 1, random)[0];
+    }
+
+    private static Object[] pickRow(Object[][] weighted, int weightColumn, SplittableRandom random) {
+        int total = 0;
+        for (Object[] row : weighted) {
+            total += (Integer) row[weightColumn];
+        }
+        int target = random.nextInt(total);
+        for (Object[] row : weighted) {
+            target -= (Integer) row[weightColumn];
+            if (target < 0) {
+                return row;
+            }
+        }
+        return weighted[weighted.length - 1];
+    }
+
+    /**
+     * Expands the operation weights into a lookup table so picking an operation is one array read
+     */
+    private static int[] buildOperationTable(int[] mix) {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int[] table = new int[total];
+        int position = 0;
+        for (int op = 0; op < mix.length; op++) {
+            for (int i = 0; i < mix[op]; i++) {
+                table[position++] = op;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Where the previous report left off
+     */
+    private static final class Interval {
+        final long startNanos;
+        final long[] operationCounts;
+        final GcPauseTracker.Totals gc;
+        final long allocatedBytes;
+
+        Interval(long startNanos) {
+            this(startNanos, new long[OPERATIONS.length], new GcPauseTracker.Totals(0, 0, 0),
+                    AllocationMeter.totalAllocatedBytes());
+        }
+
+        Interval(long startNanos, long[] operationCounts, GcPauseTracker.Totals gc, long allocatedBytes) {
+            this.startNanos = startNanos;
+            this.operationCounts = operationCounts;
+            this.gc = gc;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    /**
+     * Command line options
+     */
+    static final class Config {
+        int threads = 16;
+        boolean virtualThreads;
+        long durationSeconds = 60;
+        long reportSeconds = 10;
+        int keys = 10_000;
+        double preload = 0.5;
+        double zipf = 0.99;
+        int[] mix = {15, 45, 10, 23, 4, 1, 2};
+        int importBatch = 200;
+        long seed = 42;
+        boolean failFast;
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw usage("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+                String value = equals < 0 ? "" : arg.substring(equals + 1);
+                try {
+                    switch (name) {
+                        case "threads": config.threads = positive(Integer.parseInt(value), name); break;
+                        case "virtual": config.virtualThreads = true; break;
+                        case "duration": config.durationSeconds = positive(Long.parseLong(value), name); break;
+                        case "report": config.reportSeconds = positive(Long.parseLong(value), name); break;
+                        case "keys": config.keys = positive(Integer.parseInt(value), name); break;
+                        case "preload": config.preload = Double.parseDouble(value); break;
+                        case "zipf": config.zipf = Double.parseDouble(value); break;
+                        case "mix": config.mix = parseMix(value); break;
+                        case "import-batch": config.importBatch = positive(Integer.parseInt(value), name); break;
+                        case "seed": config.seed = Long.parseLong(value); break;
+                        case "fail-fast": config.failFast = true; break;
+                        default: throw usage("Unknown option: " + arg);
+                    }
+                } catch (NumberFormatException e) {
+                    throw usage("Invalid value for --" + name + ": " + value);
+                }
+            }
+            if (config.preload < 0 || config.preload > 1) {
+                throw usage("--preload must be between 0 and 1");
+            }
+            if (config.zipf < 0 || config.zipf == 1.0) {
+                throw usage("--zipf must be 0 or more and not exactly 1");
+            }
+            if (config.keys > 999_999) {
+                throw usage("--keys must be at most 999999");
+            }
+            if (config.virtualThreads && !virtualThreadsAvailable()) {
+                throw usage("--virtual needs Java 21 or later (running "
+                        + System.getProperty("java.version") + ")");
+            }
+            return config;
+        }
+
+        private static boolean virtualThreadsAvailable() {
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private static int[] parseMix(String value) {
+            int[] mix = new int[OPERATIONS.length];
+            int total = 0;
+            for (String part : value.split(",")) {
+                String[] pair = part.split(":");
+                int op = List.of(OPERATIONS).indexOf(pair[0].trim());
+                if (pair.length != 2 || op < 0) {
+                    throw usage("Invalid --mix entry: " + part);
+                }
+                mix[op] = Integer.parseInt(pair[1].trim());
+                if (mix[op] < 0) {
+                    throw usage("Invalid --mix weight: " + part);
+                }
+                total += mix[op];
+            }
+            if (total == 0) {
+                throw usage("--mix needs at least one positive weight");
+            }
+            return mix;
+        }
+
+        private static <T extends Number> T positive(T value, String name) {
+            if (value.longValue() <= 0) {
+                throw usage("--" + name + " must be positive");
+            }
+            return value;
+        }
+
+        private static IllegalArgumentException usage(String problem) {
+            return new IllegalArgumentException(problem
+                    + "\nUsage: java InventoryLoadSimulator [--threads=N] [--virtual] [--duration=SECONDS]"
+                    + " [--report=SECONDS] [--keys=N] [--preload=FRACTION] [--zipf=THETA]"
+                    + " [--mix=add:W,update:W,delete:W,search:W,aggregate:W,import:W,desk:W]"
+                    + " [--import-batch=N] [--seed=N] [--fail-fast]");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder mixText = new StringBuilder();
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                mixText.append(op == 0 ? "" : ",").append(OPERATIONS[op]).append(':').append(mix[op]);
+            }
+            return String.format("threads=%d%s duration=%ds keys=%,d preload=%.0f%% zipf=%.2f mix=%s seed=%d",
+                    threads, virtualThreads ? " (virtual)" : "", durationSeconds, keys, preload * 100,
+                    zipf, mixText, seed);
+        }
+    }
+
+    /**
+     * Asset count and electrical load per location, as of one snapshot
+     */
+    static final class LocationRollup {
+        private final long timestamp;
+        // location -> {assets, watts}
+        private final TreeMap<String, double[]> totals = new TreeMap<>();
+
+        LocationRollup(long timestamp, List<Asset> assets) {
+            this.timestamp = timestamp;
+            for (Asset asset : assets) {
+                double[] total = totals.computeIfAbsent(asset.getLocation(), location -> new double[2]);
+                total[0]++;
+                if (asset instanceof Electronics) {
+                    total[1] += ((Electronics) asset).getWattage();
+                }
+            }
+        }
+
+        void print() {
+            System.out.println("Last audit, as of timestamp " + timestamp + ":");
+            for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+                System.out.println(String.format("    %-14s %,7.0f assets  %,9.1f kW",
+                        entry.getKey(), entry.getValue()[0], entry.getValue()[1] / 1000));
+            }
+        }
+    }
+
+    /**
+     * Zipfian key chooser (Gray et al., "Quickly Generating Billion-Record Synthetic Databases").
+     * Rank 0 is the hottest key; ranks are scattered over the key space so the hot
+     * assets are not all next to each other in the list.
+     */
+    static final class ZipfianGenerator {
+        private final int items;
+        private final double theta;
+        private final double alpha;
+        private final double zetaN;
+        private final double eta;
+
+        ZipfianGenerator(int items, double theta) {
+            this.items = items;
+            this.theta = theta;
+            double zeta2 = zeta(2, theta);
+            this.zetaN = zeta(items, theta);
+            this.alpha = 1.0 / (1.0 - theta);
+            this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+        }
+
+        int next(SplittableRandom random) {
+            int rank;
+            if (theta == 0) {
+                rank = random.nextInt(items);
+            } else {
+                double u = random.nextDouble();
+                double uz = u * zetaN;
+                if (uz < 1.0) {
+                    rank = 0;
+                } else if (uz < 1.0 + Math.pow(0.5, theta)) {
+                    rank = 1;
+                } else {
+                    rank = (int) (items * Math.pow(eta * u - eta + 1, alpha));
+                }
+            }
+            // Multiplying by a large prime scatters neighbouring ranks over the key space
+            return (int) ((Math.min(rank, items - 1) * 1_000_003L) % items);
+        }
+
+        private static double zeta(long n, double theta) {
+            double sum = 0;
+            for (long i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Log-linear latency histogram with about 3% precision.
+     * Clerks are spread over the stripes round-robin. With no more clerks than stripes
+     * each clerk has a stripe to itself; beyond that a few clerks share each stripe.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKETS = 32;
+        private static final int LINEAR_LIMIT = 64;
+        private static final int BUCKETS = LINEAR_LIMIT + (63 - 6) * SUB_BUCKETS;
+
+        private final AtomicLongArray[] stripes;
+        private long[] lastInterval = new long[BUCKETS];
+
+        LatencyHistogram(int stripeCount) {
+            stripes = new AtomicLongArray[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new AtomicLongArray(BUCKETS);
+            }
+        }
+
+        int stripes() {
+            return stripes.length;
+        }
+
+        void record(int stripe, long nanos) {
+            stripes[stripe].incrementAndGet(bucketFor(Math.max(0, nanos)));
+        }
+
+        /**
+         * Gets the cumulative bucket counts across all stripes
+         */
+        long[] snapshot() {
+            long[] totals = new long[BUCKETS];
+            for (AtomicLongArray stripe : stripes) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    totals[i] += stripe.get(i);
+                }
+            }
+            return totals;
+        }
+
+        /**
+         * Gets the bucket counts recorded since the previous call
+         */
+        synchronized long[] takeInterval() {
+            long[] totals = snapshot();
+            long[] window = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                window[i] = totals[i] - lastInterval[i];
+            }
+            lastInterval = totals;
+            return window;
+        }
+
+        long totalCount() {
+            return count(snapshot());
+        }
+
+        static long count(long[] buckets) {
+            long count = 0;
+            for (long bucket : buckets) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        static long percentile(long[] buckets, double percentile) {
+            long count = count(buckets);
+            long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int bucketFor(long value) {
+            if (value < LINEAR_LIMIT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - 5;
+            return LINEAR_LIMIT + (exponent - 6) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < LINEAR_LIMIT) {
+                return bucket;
+            }
+            int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 6;
+            int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 5)) - 1;
+        }
+    }
+
+    /**
+     * Listens for GC notifications and keeps count of stop-the-world pauses
+     */
+    static final class GcPauseTracker {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLong intervalMaxMillis = new AtomicLong();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final NotificationListener listener = (notification, handback) -> {
+            if (!"com.sun.management.gc.notification".equals(notification.getType())) {
+                return;
+            }
+            CompositeData data = (CompositeData) notification.getUserData();
+            String gcName = (String) data.get("gcName");
+            // Concurrent cycles run alongside the application and are not pauses
+            if (gcName.contains("Concurrent") || gcName.contains("Cycles")) {
+                return;
+            }
+            long duration = (Long) ((CompositeData) data.get("gcInfo")).get("duration");
+            count.incrementAndGet();
+            totalMillis.addAndGet(duration);
+            maxMillis.accumulateAndGet(duration, Math::max);
+            intervalMaxMillis.accumulateAndGet(duration, Math::max);
+        };
+
+        void start() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter) {
+                    NotificationEmitter emitter = (NotificationEmitter) bean;
+                    emitter.addNotificationListener(listener, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        void stop() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (javax.management.ListenerNotFoundException e) {
+                    // Already removed
+                }
+            }
+            emitters.clear();
+        }
+
+        Totals snapshot() {
+            return new Totals(count.get(), totalMillis.get(), maxMillis.get());
+        }
+
+        long takeIntervalMax() {
+            return intervalMaxMillis.getAndSet(0);
+        }
+
+        static final class Totals {
+            final long count;
+            final long totalMillis;
+            final long maxMillis;
+
+            Totals(long count, long totalMillis, long maxMillis) {
+                this.count = count;
+                this.totalMillis = totalMillis;
+                this.maxMillis = maxMillis;
+            }
+        }
+    }
+
+    /**
+     * Reads how many bytes the JVM's threads have allocated so far
+     */
+    static final class AllocationMeter {
+        private static final com.sun.management.ThreadMXBean THREADS = hotspotThreads();
+        // Java 21+ counts threads that have already ended; older JVMs only report live threads
+        private static final Method TOTAL_ALLOCATED = totalAllocatedMethod();
+        // Bytes allocated by clerk threads that have finished, for JVMs without TOTAL_ALLOCATED
+        private static final AtomicLong retiredBytes = new AtomicLong();
+
+        private AllocationMeter() {
+        }
+
+        /**
+         * @return Total bytes allocated, or -1 if the JVM cannot report it
+         */
+        static long totalAllocatedBytes() {
+            if (THREADS == null) {
+                return -1;
+            }
+            if (TOTAL_ALLOCATED != null) {
+                try {
+                    return (Long) TOTAL_ALLOCATED.invoke(THREADS);
+                } catch (ReflectiveOperationException e) {
+                    return -1;
+                }
+            }
+            long sum = retiredBytes.get();
+            for (long allocated : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+                if (allocated > 0) {
+                    sum += allocated;
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Called by a thread just before it ends so its allocations are not lost
+         */
+        static void threadFinished() {
+            if (THREADS != null && TOTAL_ALLOCATED == null) {
+                retiredBytes.addAndGet(Math.max(0, THREADS.getCurrentThreadAllocatedBytes()));
+            }
+        }
+
+        private static com.sun.management.ThreadMXBean hotspotThreads() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+                if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                    return hotspot;
+                }
+            }
+            return null;
+        }
+
+        private static Method totalAllocatedMethod() {
+            try {
+                return com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,130 +1,674 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * InventoryManager class handles all inventory operations
- * Manages the ArrayList of Asset objects and provides CRUD operations
+ * Manages the Asset objects and provides CRUD operations
+ *
+ * Storage is multi-versioned: every add, update and delete creates a new version
+ * tagged with a monotonic timestamp instead of overwriting the old one. Readers work
+ * on an InventorySnapshot taken "as of" a timestamp, so they see a stable view and
+ * never block writers. ID lookups read the index optimistically instead of locking.
+ * A background reclaimer drops versions that are older than the oldest open snapshot.
  */
 public class InventoryManager {
-    // ENCAPSULATION - private ArrayList to store assets
-    private ArrayList<Asset> assets;
-    
+    /** How often the background reclaimer runs, in milliseconds */
+    private static final long RECLAIM_INTERVAL_MS = 5000;
+    /** Optimistic ID lookups to try before falling back to a read lock */
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+
+    // ENCAPSULATION - maps packed asset ID codes to the record holding that ID.
+    // Records never move, so adds and deletes only touch their own entry
+    // Written under the write lock; readers use an optimistic read (see assetIdExists)
+    private final LongObjectHashMap<AssetRecord> idIndex;
+    // Free-form IDs that cannot be packed are indexed by their String
+    private final ConcurrentHashMap<String, AssetRecord> freeFormIndex;
+    // Set once two live assets have shared an ID (addAsset and updateAsset allow it);
+    // from then on, taking an ID out of the index looks for another asset holding it
+    private boolean duplicateIdsSeen;
+    // Serializes writers; readers only validate against it and never wait for it
+    // unless an optimistic ID lookup keeps racing writers
+    private final StampedLock lock = new StampedLock();
+    // Timestamp handed to the next mutation (guarded by the write lock)
+    private long nextTimestamp = 1;
+
+    // Every record that may still be visible to a snapshot, in creation order
+    private volatile RecordTable recordTable = new RecordTable(new AssetRecord[16], 0);
+    // Newest timestamp whose version is fully installed and visible to readers
+    private volatile long committedTimestamp;
+
+    // Open snapshots: timestamp -> number of readers at that timestamp (guarded by itself)
+    private final TreeMap<Long, Integer> activeReaders = new TreeMap<>();
+    // Versions older than this timestamp may already have been reclaimed
+    private volatile long oldestRetainedTimestamp;
+    // Keeps the scheduled reclaimer and direct reclaimVersions() calls from overlapping
+    private final Object reclaimLock = new Object();
+
+    private final ScheduledExecutorService reclaimer;
+
     /**
-     * Constructor initializes the assets list with some sample data
+     * Constructor initializes the inventory with some sample data
+     * and starts the background version reclaimer
      */
     public InventoryManager() {
-        assets = new ArrayList<>();
+        idIndex = new LongObjectHashMap<>(16);
+        freeFormIndex = new ConcurrentHashMap<>();
         initializeSampleData();
+
+        reclaimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-version-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reclaimer.scheduleWithFixedDelay(this::reclaimVersions,
+                RECLAIM_INTERVAL_MS, RECLAIM_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
-    
+
     /**
      * Initializes the inventory with sample data for demonstration
      * Shows POLYMORPHISM - storing different types of objects in same collection
      */
     private void initializeSampleData() {
         // Adding sample Electronics items
-        assets.add(new Electronics("E001", "Laptop", "Computer Lab", 65.0));
-        assets.add(new Electronics("E002", "Projector", "Classroom A", 250.0));
-        assets.add(new Electronics("E003", "Printer", "Office", 45.0));
-        
+        addAsset(new Electronics("E001", "Laptop", "Computer Lab", 65.0));
+        addAsset(new Electronics("E002", "Projector", "Classroom A", 250.0));
+        addAsset(new Electronics("E003", "Printer", "Office", 45.0));
+
         // Adding sample Furniture items
-        assets.add(new Furniture("F001", "Desk", "Classroom A", "Wood"));
-        assets.add(new Furniture("F002", "Chair", "Library", "Plastic"));
-        assets.add(new Furniture("F003", "Bookshelf", "Library", "Metal"));
+        addAsset(new Furniture("F001", "Desk", "Classroom A", "Wood"));
+        addAsset(new Furniture("F002", "Chair", "Library", "Plastic"));
+        addAsset(new Furniture("F003", "Bookshelf", "Library", "Metal"));
     }
-    
+
     /**
      * Adds a new asset to the inventory
      * @param asset The asset to add
      */
     public void addAsset(Asset asset) {
-        assets.add(asset);
+        long stamp = lock.writeLock();
+        try {
+            insertRecord(asset);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
-    
+
+    /**
+     * Adds a new asset only if no asset with the same ID exists
+     * The check and the add happen atomically, so concurrent callers cannot create duplicates
+     * @param asset The asset to add
+     * @return true if the asset was added, false if its ID already exists
+     */
+    public boolean addAssetIfAbsent(Asset asset) {
+        long stamp = lock.writeLock();
+        try {
+            if (findRecord(asset) != null) {
+                return false;
+            }
+            insertRecord(asset);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
     /**
      * Updates an existing asset in the inventory
+     * The previous version is kept for snapshots that are still reading it
      * @param index The index of the asset to update
      * @param updatedAsset The updated asset object
      */
     public void updateAsset(int index, Asset updatedAsset) {
-        if (index >= 0 && index < assets.size()) {
-            assets.set(index, updatedAsset);
+        long stamp = lock.writeLock();
+        try {
+            AssetRecord record = recordAt(index);
+            if (record != null) {
+                updateRecord(record, updatedAsset);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Updates the asset with the given ID
+     * Unlike updateAsset(int, Asset) this cannot hit the wrong asset when other
+     * clerks add or delete assets at the same time
+     * @param assetId The ID of the asset to update
+     * @param updatedAsset The updated asset object
+     * @return true if the asset was updated, false if no asset has that ID
+     * @throws IllegalArgumentException if the updated asset's ID belongs to another asset
+     */
+    public boolean updateAssetById(String assetId, Asset updatedAsset) {
+        long stamp = lock.writeLock();
+        try {
+            AssetRecord record = findRecord(assetId);
+            if (record == null) {
+                return false;
+            }
+            AssetRecord holder = findRecord(updatedAsset);
+            if (holder != null && holder != record) {
+                throw new IllegalArgumentException(
+                        "Asset ID " + updatedAsset.getAssetId() + " already exists");
+            }
+            updateRecord(record, updatedAsset);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
-    
+
     /**
      * Deletes an asset from the inventory
+     * A deletion marker is recorded so older snapshots still see the asset
      * @param index The index of the asset to delete
      */
     public void deleteAsset(int index) {
-        if (index >= 0 && index < assets.size()) {
-            assets.remove(index);
+        long stamp = lock.writeLock();
+        try {
+            AssetRecord record = recordAt(index);
+            if (record != null) {
+                deleteRecord(record);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
-    
+
+    /**
+     * Deletes the asset with the given ID
+     * @param assetId The ID of the asset to delete
+     * @return true if the asset was deleted, false if no asset has that ID
+     */
+    public boolean deleteAssetById(String assetId) {
+        long stamp = lock.writeLock();
+        try {
+            AssetRecord record = findRecord(assetId);
+            if (record == null) {
+                return false;
+            }
+            deleteRecord(record);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
     /**
      * Gets all assets in the inventory
-     * @return ArrayList of all assets
+     * @return A new ArrayList holding the current assets; changing it does not change the inventory
      */
     public ArrayList<Asset> getAssets() {
-        return assets;
+        try (InventorySnapshot snapshot = openSnapshot()) {
+            return snapshot.getAssets();
+        }
     }
-    
+
     /**
      * Gets an asset by index
      * @param index The index of the asset
      * @return The asset at the specified index, or null if invalid index
      */
     public Asset getAsset(int index) {
-        if (index >= 0 && index < assets.size()) {
-            return assets.get(index);
+        try (InventorySnapshot snapshot = openSnapshot()) {
+            return snapshot.getAsset(index);
         }
-        return null;
     }
-    
+
     /**
      * Searches for assets by name (case-insensitive)
      * @param searchTerm The term to search for
      * @return List of assets matching the search term
      */
     public List<Asset> searchAssets(String searchTerm) {
-        List<Asset> results = new ArrayList<>();
-        String lowerSearchTerm = searchTerm.toLowerCase();
-        
-        for (Asset asset : assets) {
-            if (asset.getName().toLowerCase().contains(lowerSearchTerm) ||
-                asset.getAssetId().toLowerCase().contains(lowerSearchTerm) ||
-                asset.getLocation().toLowerCase().contains(lowerSearchTerm)) {
-                results.add(asset);
-            }
+        try (InventorySnapshot snapshot = openSnapshot()) {
+            return snapshot.searchAssets(searchTerm);
         }
-        return results;
     }
-    
+
     /**
      * Checks if an asset ID already exists
      * @param assetId The ID to check
      * @return true if ID exists, false otherwise
      */
     public boolean assetIdExists(String assetId) {
-        for (Asset asset : assets) {
-            if (asset.getAssetId().equals(assetId)) {
-                return true;
+        if (assetId == null) {
+            return false;
+        }
+        long code = AssetIdCodec.encode(assetId);
+        if (code == AssetIdCodec.NO_CODE) {
+            return freeFormIndex.containsKey(assetId);
+        }
+        // Optimistic read: the lookup is kept only if no writer touched the index meanwhile
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            boolean exists = idIndex.containsKey(code);
+            if (lock.validate(stamp)) {
+                return exists;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return idIndex.containsKey(code);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the timestamp of the newest committed change
+     * @return The current timestamp, usable with openSnapshot(long)
+     */
+    public long getCurrentTimestamp() {
+        return committedTimestamp;
+    }
+
+    /**
+     * Gets the oldest timestamp that can still be read
+     * @return The oldest retained timestamp
+     */
+    public long getOldestRetainedTimestamp() {
+        return oldestRetainedTimestamp;
+    }
+
+    /**
+     * Opens a snapshot of the current state of the inventory
+     * The snapshot must be closed so its versions can be reclaimed
+     * @return A snapshot at the current timestamp
+     */
+    public InventorySnapshot openSnapshot() {
+        synchronized (activeReaders) {
+            long timestamp = committedTimestamp;
+            registerReader(timestamp);
+            return new InventorySnapshot(this, timestamp);
+        }
+    }
+
+    /**
+     * Opens a snapshot of the inventory as it was at the given timestamp
+     * The snapshot must be closed so its versions can be reclaimed
+     * @param timestamp A timestamp between the oldest retained and the current timestamp
+     * @return A snapshot at that timestamp
+     * @throws IllegalArgumentException if the timestamp is no longer retained or is in the future
+     */
+    public InventorySnapshot openSnapshot(long timestamp) {
+        synchronized (activeReaders) {
+            if (timestamp < oldestRetainedTimestamp || timestamp > committedTimestamp) {
+                throw new IllegalArgumentException("Timestamp " + timestamp
+                        + " is outside the retained range " + oldestRetainedTimestamp
+                        + " to " + committedTimestamp);
+            }
+            registerReader(timestamp);
+            return new InventorySnapshot(this, timestamp);
+        }
+    }
+
+    /**
+     * Gets all assets as they were at the given timestamp
+     * @param timestamp A retained timestamp
+     * @return List of the assets that existed at that timestamp
+     */
+    public List<Asset> getAssetsAsOf(long timestamp) {
+        try (InventorySnapshot snapshot = openSnapshot(timestamp)) {
+            return snapshot.getAssets();
+        }
+    }
+
+    /**
+     * Collects the assets visible at a timestamp, in display order
+     * Called by InventorySnapshot; the caller must be a registered reader
+     */
+    ArrayList<Asset> collectAssets(long timestamp) {
+        RecordTable table = recordTable;
+        ArrayList<Asset> results = new ArrayList<>();
+        for (int i = 0; i < table.size; i++) {
+            Asset asset = table.records[i].assetAsOf(timestamp);
+            if (asset != null) {
+                results.add(asset);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds the asset at a display position as of a timestamp
+     * Called by InventorySnapshot; the caller must be a registered reader
+     * @return The asset, or null if the index is out of range
+     */
+    Asset collectAsset(long timestamp, int index) {
+        if (index < 0) {
+            return null;
+        }
+        RecordTable table = recordTable;
+        for (int i = 0; i < table.size; i++) {
+            Asset asset = table.records[i].assetAsOf(timestamp);
+            if (asset != null && index-- == 0) {
+                return asset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Unregisters a reader when its snapshot is closed
+     */
+    void releaseSnapshot(long timestamp) {
+        synchronized (activeReaders) {
+            Integer count = activeReaders.get(timestamp);
+            if (count == null) {
+                return;
+            }
+            if (count == 1) {
+                activeReaders.remove(timestamp);
+            } else {
+                activeReaders.put(timestamp, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Drops versions that no open snapshot can see any more
+     * Runs periodically on the background reclaimer thread, but may also be called directly
+     * @return The number of versions reclaimed
+     */
+    public int reclaimVersions() {
+        synchronized (reclaimLock) {
+            return reclaimVersionsUpTo(currentHorizon());
+        }
+    }
+
+    /**
+     * Computes and publishes the oldest timestamp any reader can still ask for
+     * @return The new horizon, or -1 if it has not moved
+     */
+    private long currentHorizon() {
+        long horizon;
+        synchronized (activeReaders) {
+            horizon = committedTimestamp;
+            Map.Entry<Long, Integer> oldestReader = activeReaders.firstEntry();
+            if (oldestReader != null && oldestReader.getKey() < horizon) {
+                horizon = oldestReader.getKey();
+            }
+            if (horizon <= oldestRetainedTimestamp) {
+                return -1;
             }
+            // Published before trimming so no new reader can ask for an older timestamp
+            oldestRetainedTimestamp = horizon;
+            return horizon;
         }
-        return false;
     }
-    
+
+    /**
+     * Trims every version history down to the version visible at the horizon
+     * @return The number of versions reclaimed
+     */
+    private int reclaimVersionsUpTo(long horizon) {
+        if (horizon < 0) {
+            return 0;
+        }
+        int reclaimed = 0;
+        boolean anyDeadRecords = false;
+        RecordTable table = recordTable;
+        for (int i = 0; i < table.size; i++) {
+            AssetRecord record = table.records[i];
+            AssetVersion visible = record.head;
+            while (visible != null && visible.timestamp > horizon) {
+                visible = visible.older;
+            }
+            if (visible == null) {
+                continue; // Created after the horizon, nothing to trim yet
+            }
+            for (AssetVersion v = visible.older; v != null; v = v.older) {
+                reclaimed++;
+            }
+            visible.older = null;
+            if (visible.asset == null && visible == record.head) {
+                // Deleted before the horizon, so no snapshot can see the record at all
+                record.dead = true;
+                anyDeadRecords = true;
+                reclaimed++;
+            }
+        }
+
+        if (anyDeadRecords) {
+            removeDeadRecords();
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Stops the background reclaimer thread
+     */
+    public void shutdown() {
+        reclaimer.shutdownNow();
+    }
+
     /**
      * Demonstrates POLYMORPHISM - calls overridden getDetails() method
      * on different types of objects stored in the same collection
      */
     public void printAllAssetDetails() {
         System.out.println("=== All Asset Details ===");
-        for (Asset asset : assets) {
+        for (Asset asset : getAssets()) {
             // POLYMORPHISM in action - calls the appropriate getDetails() method
             // based on the actual object type (Electronics or Furniture)
             System.out.println(asset.getDetails());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Appends a new record for the asset (caller holds the write lock)
+     */
+    private void insertRecord(Asset asset) {
+        long timestamp = nextTimestamp++;
+        AssetRecord record = new AssetRecord(new AssetVersion(timestamp, asset, null));
+        appendRecord(record);
+        indexRecord(record, asset);
+        committedTimestamp = timestamp;
+    }
+
+    /**
+     * Installs a new version for the record (caller holds the write lock)
+     */
+    private void updateRecord(AssetRecord record, Asset updatedAsset) {
+        Asset previous = record.head.asset;
+        long timestamp = nextTimestamp++;
+        record.head = new AssetVersion(timestamp, updatedAsset, record.head);
+        if (!previous.hasSameAssetId(updatedAsset)) {
+            unindexRecord(record, previous);
+            indexRecord(record, updatedAsset);
+        }
+        committedTimestamp = timestamp;
+    }
+
+    /**
+     * Marks the record as deleted (caller holds the write lock)
+     */
+    private void deleteRecord(AssetRecord record) {
+        Asset previous = record.head.asset;
+        long timestamp = nextTimestamp++;
+        record.head = new AssetVersion(timestamp, null, record.head);
+        unindexRecord(record, previous);
+        committedTimestamp = timestamp;
+    }
+
+    /**
+     * Finds the live record at a display position (caller holds the write lock)
+     * Display order is creation order, skipping deleted records
+     * @return The record, or null if the index is out of range
+     */
+    private AssetRecord recordAt(int index) {
+        if (index < 0) {
+            return null;
+        }
+        RecordTable table = recordTable;
+        for (int i = 0; i < table.size; i++) {
+            AssetRecord record = table.records[i];
+            if (record.head.asset != null && index-- == 0) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the live record holding an ID (caller holds the write lock)
+     */
+    private AssetRecord findRecord(String assetId) {
+        long code = AssetIdCodec.encode(assetId);
+        return code != AssetIdCodec.NO_CODE ? idIndex.get(code) : freeFormIndex.get(assetId);
+    }
+
+    /**
+     * Looks up the live record holding the same ID as an asset (caller holds the write lock)
+     */
+    private AssetRecord findRecord(Asset asset) {
+        long code = asset.getAssetIdCode();
+        return code != AssetIdCodec.NO_CODE ? idIndex.get(code) : freeFormIndex.get(asset.getAssetId());
+    }
+
+    /**
+     * Adds a record to the ID index under the asset's ID (caller holds the write lock)
+     * If another live record already holds the ID, that one stays indexed
+     */
+    private void indexRecord(AssetRecord record, Asset asset) {
+        if (findRecord(asset) != null) {
+            duplicateIdsSeen = true;
+            return;
+        }
+        long code = asset.getAssetIdCode();
+        if (code != AssetIdCodec.NO_CODE) {
+            idIndex.put(code, record);
+        } else {
+            freeFormIndex.put(asset.getAssetId(), record);
+        }
+    }
+
+    /**
+     * Takes a record out of the ID index once it no longer holds the asset's ID (caller holds the write lock)
+     */
+    private void unindexRecord(AssetRecord record, Asset asset) {
+        if (findRecord(asset) != record) {
+            return; // A duplicate of this ID is the indexed one
+        }
+        long code = asset.getAssetIdCode();
+        if (code != AssetIdCodec.NO_CODE) {
+            idIndex.remove(code);
+        } else {
+            freeFormIndex.remove(asset.getAssetId());
+        }
+        if (duplicateIdsSeen) {
+            // Another live asset may still hold the ID; index it instead
+            RecordTable table = recordTable;
+            for (int i = 0; i < table.size; i++) {
+                Asset current = table.records[i].head.asset;
+                if (current != null && current.hasSameAssetId(asset)) {
+                    indexRecord(table.records[i], current);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void registerReader(long timestamp) {
+        activeReaders.merge(timestamp, 1, Integer::sum);
+    }
+
+    /**
+     * Appends a record to the record table (caller holds the write lock)
+     * The slot is filled before the new size is published, so readers never see a gap
+     */
+    private void appendRecord(AssetRecord record) {
+        RecordTable table = recordTable;
+        AssetRecord[] records = table.records;
+        if (table.size == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        records[table.size] = record;
+        recordTable = new RecordTable(records, table.size + 1);
+    }
+
+    /**
+     * Replaces the record table with a copy that leaves out reclaimed records
+     * Readers holding the old table keep using it safely
+     */
+    private void removeDeadRecords() {
+        long stamp = lock.writeLock();
+        try {
+            RecordTable table = recordTable;
+            AssetRecord[] kept = new AssetRecord[Math.max(16, table.records.length)];
+            int size = 0;
+            for (int i = 0; i < table.size; i++) {
+                if (!table.records[i].dead) {
+                    kept[size++] = table.records[i];
+                }
+            }
+            recordTable = new RecordTable(kept, size);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * One version of an asset; a null asset marks a deletion
+     */
+    private static final class AssetVersion {
+        final long timestamp;
+        final Asset asset;
+        // Next older version, cut off by the reclaimer once no reader needs it
+        volatile AssetVersion older;
+
+        AssetVersion(long timestamp, Asset asset, AssetVersion older) {
+            this.timestamp = timestamp;
+            this.asset = asset;
+            this.older = older;
+        }
+    }
+
+    /**
+     * The version history of one asset, newest version first
+     */
+    private static final class AssetRecord {
+        volatile AssetVersion head;
+        // Set by the reclaimer once the record is invisible to every reader
+        boolean dead;
+
+        AssetRecord(AssetVersion head) {
+            this.head = head;
+        }
+
+        /**
+         * Finds the asset as it was at the given timestamp
+         * @return The asset, or null if it did not exist or was deleted at that time
+         */
+        Asset assetAsOf(long timestamp) {
+            AssetVersion version = head;
+            while (version != null && version.timestamp > timestamp) {
+                version = version.older;
+            }
+            return version == null ? null : version.asset;
+        }
+    }
+
+    /**
+     * An immutable view of the record array and how many of its slots are in use
+     */
+    private static final class RecordTable {
+        final AssetRecord[] records;
+        final int size;
+
+        RecordTable(AssetRecord[] records, int size) {
+            this.records = records;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InventorySnapshot is a stable, read-only view of the inventory at one timestamp.
+ * Writers keep working while a snapshot is open; the snapshot keeps seeing the
+ * versions that were current at its timestamp. Audits, exports and long scans
+ * should read through a snapshot and close it when done (try-with-resources).
+ */
+public class InventorySnapshot implements AutoCloseable {
+    private final InventoryManager manager;
+    private final long timestamp;
+    private boolean closed;
+
+    /**
+     * Created by InventoryManager.openSnapshot(), which registers the reader
+     * @param manager The inventory being read
+     * @param timestamp The timestamp this snapshot reads as of
+     */
+    InventorySnapshot(InventoryManager manager, long timestamp) {
+        this.manager = manager;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets the timestamp this snapshot reads as of
+     * @return The snapshot timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets all assets that existed at the snapshot timestamp
+     * @return A new ArrayList of assets in display order
+     */
+    public ArrayList<Asset> getAssets() {
+        checkOpen();
+        return manager.collectAssets(timestamp);
+    }
+
+    /**
+     * Gets an asset by its display position at the snapshot timestamp
+     * @param index The index of the asset
+     * @return The asset at the specified index, or null if invalid index
+     */
+    public Asset getAsset(int index) {
+        checkOpen();
+        return manager.collectAsset(timestamp, index);
+    }
+
+    /**
+     * Searches the snapshot for assets by name, ID or location (case-insensitive)
+     * @param searchTerm The term to search for
+     * @return List of assets matching the search term
+     */
+    public List<Asset> searchAssets(String searchTerm) {
+        List<Asset> results = new ArrayList<>();
+        String lowerSearchTerm = searchTerm.toLowerCase();
+
+        for (Asset asset : getAssets()) {
+            if (asset.getName().toLowerCase().contains(lowerSearchTerm) ||
+                asset.assetIdContainsIgnoreCase(lowerSearchTerm) ||
+                asset.getLocation().toLowerCase().contains(lowerSearchTerm)) {
+                results.add(asset);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Closes the snapshot so its versions can be reclaimed
+     * Calling close more than once has no effect
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            manager.releaseSnapshot(timestamp);
+        }
+    }
+
+    private synchronized void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Snapshot at timestamp " + timestamp + " is closed");
+        }
+    }
+}
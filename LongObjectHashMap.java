@@ -0,0 +1,189 @@
+/**
+ * LongObjectHashMap is a small open-addressing hash map from primitive long keys to objects.
+ * Keys are kept in a primitive array, so lookups never box or allocate.
+ * Used by InventoryManager to map packed asset ID codes to their records.
+ *
+ * Writers must be serialized by the caller. get and containsKey never throw or
+ * loop forever while racing a writer, so they can run under a StampedLock
+ * optimistic read; their result is only trusted once the stamp validates.
+ * @param <V> The value type; null values are not allowed
+ */
+public class LongObjectHashMap<V> {
+    private static final long EMPTY_KEY = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // ENCAPSULATION - parallel arrays for keys and values
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    // The empty-slot marker cannot be stored in the arrays, so it is kept aside
+    private V emptyKeyValue;
+
+    /**
+     * Creates a map sized for the given number of entries
+     * @param expectedSize Number of entries expected
+     */
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Gets the value stored for a key
+     * @param key The key to look up
+     * @return The value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == EMPTY_KEY) {
+            return emptyKeyValue;
+        }
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        if (keys.length != values.length) {
+            return null; // Caught between the two array swaps of a resize
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        // Bounded so a lookup always ends, even on a table that is being changed
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[slot];
+            if (current == key) {
+                return (V) values[slot];
+            }
+            if (current == EMPTY_KEY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key is present
+     * @param key The key to check
+     * @return true if present, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value
+     * @param key The key
+     * @param value The value to store, must not be null
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        if (key == EMPTY_KEY) {
+            if (emptyKeyValue == null) {
+                size++;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+        values[slot] = value;
+        keys[slot] = key;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes a key from the map
+     * @param key The key to remove
+     * @return The value that was stored, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY_KEY) {
+            V removed = emptyKeyValue;
+            if (removed != null) {
+                emptyKeyValue = null;
+                size--;
+            }
+            return removed;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Finds the slot holding the key, or the empty slot where it would go
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the probe chain into the gap
+     * so that no tombstones are needed
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == EMPTY_KEY) {
+                break;
+            }
+            int home = hash(key) & mask;
+            // Move the entry only if its home slot is not between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                values[gap] = values[slot];
+                keys[gap] = key;
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = null;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] newKeys = new long[newCapacity];
+        Object[] newValues = new Object[newCapacity];
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (newKeys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        // Both arrays are fully built before either is published
+        values = newValues;
+        keys = newKeys;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -3,6 +3,8 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Vector;
 
 /**
  * MainApp class - Contains the main method and GUI implementation
@@ -12,7 +14,8 @@ public class MainApp extends JFrame {
     // GUI Components
     private InventoryManager inventoryManager;
     private JTable assetTable;
-    private DefaultTableModel tableModel;
+    private AssetTableModel tableModel;
+    private AssetRowSorter rowSorter;
     private JButton addButton, editButton, deleteButton, searchButton;
     private JTextField searchField;
     
@@ -37,13 +40,12 @@ public class MainApp extends JFrame {
         setLayout(new BorderLayout());
         
         // Create table model and table
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
+        tableModel = new AssetTableModel(columnNames);
         assetTable = new JTable(tableModel);
+        // Sorting and search filtering are done by the sorter, so model rows always
+        // match inventory indexes; selected rows are converted back before use
+        rowSorter = new AssetRowSorter(tableModel);
+        assetTable.setRowSorter(rowSorter);
         assetTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
         // Create scroll pane for table
@@ -103,7 +105,7 @@ public class MainApp extends JFrame {
         JButton showAllButton = new JButton("Show All");
         
         searchButton.addActionListener(e -> performSearch());
-        showAllButton.addActionListener(e -> loadTableData());
+        showAllButton.addActionListener(e -> showAllAssets());
         
         // Allow Enter key to trigger search
         searchField.addActionListener(e -> performSearch());
@@ -118,20 +120,41 @@ public class MainApp extends JFrame {
     /**
      * Loads all asset data into the table
      * Demonstrates POLYMORPHISM - different asset types displayed uniformly
+     * The rows are replaced in one go so the sorter rebuilds its keys only once
      */
     private void loadTableData() {
-        tableModel.setRowCount(0); // Clear existing data
-        
-        for (Asset asset : inventoryManager.getAssets()) {
-            Object[] rowData = {
-                asset.getAssetId(),
-                asset.getName(),
-                asset.getAssetType(), // POLYMORPHISM - calls overridden method
-                asset.getLocation(),
-                getSpecificProperty(asset) // POLYMORPHISM - gets type-specific property
-            };
-            tableModel.addRow(rowData);
+        ArrayList<Asset> assets = inventoryManager.getAssets();
+        Object[][] rows = new Object[assets.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = createRowData(assets.get(i));
         }
+        tableModel.setDataVector(rows, columnNames);
+    }
+    
+    /**
+     * Replaces a single table row after its asset was edited
+     * The whole row is replaced with a single update event, so the sorter
+     * re-sorts this row once
+     * @param modelRow The model row (same as the inventory index)
+     * @param asset The updated asset
+     */
+    private void updateTableRow(int modelRow, Asset asset) {
+        tableModel.setRow(modelRow, createRowData(asset));
+    }
+    
+    /**
+     * Builds the table cells for one asset
+     * @param asset The asset to display
+     * @return The cell values in column order
+     */
+    private Object[] createRowData(Asset asset) {
+        return new Object[] {
+            asset.getAssetId(),
+            asset.getName(),
+            asset.getAssetType(), // POLYMORPHISM - calls overridden method
+            asset.getLocation(),
+            getSpecificProperty(asset) // POLYMORPHISM - gets type-specific property
+        };
     }
     
     /**
@@ -150,30 +173,14 @@ public class MainApp extends JFrame {
     }
     
     /**
-     * Performs search operation and updates table with results
+     * Performs search operation by filtering the table rows
+     * Matches ID, name and location like InventoryManager.searchAssets
      */
     private void performSearch() {
         String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadTableData();
-            return;
-        }
-        
-        tableModel.setRowCount(0);
-        var searchResults = inventoryManager.searchAssets(searchTerm);
-        
-        for (Asset asset : searchResults) {
-            Object[] rowData = {
-                asset.getAssetId(),
-                asset.getName(),
-                asset.getAssetType(),
-                asset.getLocation(),
-                getSpecificProperty(asset)
-            };
-            tableModel.addRow(rowData);
-        }
+        rowSorter.setFilterText(searchTerm);
         
-        if (searchResults.isEmpty()) {
+        if (!searchTerm.isEmpty() && rowSorter.getViewRowCount() == 0) {
             JOptionPane.showMessageDialog(this, 
                 "No assets found matching: " + searchTerm, 
                 "Search Results", 
@@ -181,6 +188,14 @@ public class MainApp extends JFrame {
         }
     }
     
+    /**
+     * Clears the search and shows every asset again
+     */
+    private void showAllAssets() {
+        searchField.setText("");
+        rowSorter.setFilterText("");
+    }
+    
     /**
      * Handles editing of selected asset
      */
@@ -194,7 +209,7 @@ public class MainApp extends JFrame {
             return;
         }
         
-        showAddEditDialog(true, selectedRow);
+        showAddEditDialog(true, assetTable.convertRowIndexToModel(selectedRow));
     }
     
     /**
@@ -216,8 +231,9 @@ public class MainApp extends JFrame {
             JOptionPane.YES_NO_OPTION);
             
         if (confirm == JOptionPane.YES_OPTION) {
-            inventoryManager.deleteAsset(selectedRow);
-            loadTableData();
+            int modelRow = assetTable.convertRowIndexToModel(selectedRow);
+            inventoryManager.deleteAsset(modelRow);
+            tableModel.removeRow(modelRow);
             JOptionPane.showMessageDialog(this, 
                 "Asset deleted successfully!", 
                 "Success", 
@@ -228,7 +244,7 @@ public class MainApp extends JFrame {
     /**
      * Shows the Add/Edit dialog window
      * @param isEdit true if editing, false if adding
-     * @param selectedRow the row index if editing, -1 if adding
+     * @param selectedRow the model row (inventory index) if editing, -1 if adding
      */
     private void showAddEditDialog(boolean isEdit, int selectedRow) {
         JDialog dialog = new JDialog(this, isEdit ? "Edit Asset" : "Add Asset", true);
@@ -384,19 +400,20 @@ public class MainApp extends JFrame {
             // Save the asset
             if (isEdit) {
                 inventoryManager.updateAsset(selectedRow, asset);
+                updateTableRow(selectedRow, asset);
                 JOptionPane.showMessageDialog(this, 
                     "Asset updated successfully!", 
                     "Success", 
                     JOptionPane.INFORMATION_MESSAGE);
             } else {
                 inventoryManager.addAsset(asset);
+                tableModel.addRow(createRowData(asset));
                 JOptionPane.showMessageDialog(this, 
                     "Asset added successfully!", 
                     "Success", 
                     JOptionPane.INFORMATION_MESSAGE);
             }
             
-            loadTableData();
             return true;
             
         } catch (Exception ex) {
@@ -433,6 +450,37 @@ public class MainApp extends JFrame {
             System.out.println("=== School Inventory Management System Started ===");
             InventoryManager manager = new InventoryManager();
             manager.printAllAssetDetails();
+            manager.shutdown(); // Only needed for printing; stop its reclaimer thread
         });
     }
-}
\ No newline at end of file
+    
+    /**
+     * Read-only table model that can replace a whole row with one update event
+     */
+    private static class AssetTableModel extends DefaultTableModel {
+        private static final long serialVersionUID = 1L;
+        
+        AssetTableModel(String[] columnNames) {
+            super(columnNames, 0);
+        }
+        
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false; // Make table read-only
+        }
+        
+        /**
+         * Replaces every cell of a row, then notifies listeners once
+         * @param row The model row to replace
+         * @param rowData The new cell values in column order
+         */
+        @SuppressWarnings("unchecked")
+        void setRow(int row, Object[] rowData) {
+            Vector<Object> rowVector = dataVector.elementAt(row);
+            for (int column = 0; column < rowData.length; column++) {
+                rowVector.setElementAt(rowData[column], column);
+            }
+            fireTableRowsUpdated(row, row);
+        }
+    }
+}